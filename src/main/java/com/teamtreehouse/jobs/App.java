@@ -1,6 +1,7 @@
 package com.teamtreehouse.jobs;
 
 import com.teamtreehouse.jobs.model.Job;
+import com.teamtreehouse.jobs.server.JobServer;
 import com.teamtreehouse.jobs.service.JobService;
 
 import java.io.IOException;
@@ -23,6 +24,7 @@ public class App {
   public static void main(String[] args) {
     JobService service = new JobService();
     boolean shouldRefresh = false;
+    boolean shouldServe = false;
     try {
       if (shouldRefresh) {
         service.refresh();
@@ -30,6 +32,9 @@ public class App {
       List<Job> jobs = service.loadJobs();
       System.out.printf("Total jobs:  %d %n %n", jobs.size());
       explore(jobs);
+      if (shouldServe) {
+        new JobServer(jobs, JobServer.DEFAULT_PORT).start();
+      }
     } catch (IOException e) {
       e.printStackTrace();
     }
@@ -0,0 +1,390 @@
+package com.teamtreehouse.jobs.server;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import com.teamtreehouse.jobs.App;
+import com.teamtreehouse.jobs.model.Job;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Embedded HTTP API over the jobs loaded by {@link com.teamtreehouse.jobs.service.JobService#loadJobs()}.
+ *
+ * Endpoints (all GET or HEAD, all JSON):
+ *   /jobs?q=&city=&state=&company=&limit=   jobs whose title contains q and whose city/state/company match, ignoring
+ *                                           case (default limit 25)
+ *   /words?limit=                           snippet words sorted by count descending (default limit 20)
+ *   /companies?limit=                       companies sorted by job count descending (default limit 20)
+ * No limit may exceed 1000.
+ *
+ * The corpus is never copied per request: handlers stream over one shared read-only list. Every response body is
+ * serialized once, gzipped once, and cached under the path and the normalized parameters the endpoint reads, so a hot
+ * request is just a lock-free map lookup and a write. Default responses are built at startup and never evicted; other
+ * queries share a bounded cache that drops arbitrary entries once full. Responses always carry a Content-Length,
+ * which lets the JDK server keep the connection alive between requests.
+ */
+public class JobServer {
+  public static final int DEFAULT_PORT = 8080;
+  private static final int DEFAULT_JOB_LIMIT = 25;
+  private static final int DEFAULT_MENU_LIMIT = 20;
+  private static final int MAX_LIMIT = 1000;
+  private static final int MAX_CACHED_RESPONSES = 256;
+  private static final JsonFactory JSON_FACTORY = new JacksonFactory();
+
+  private final List<Job> jobs;
+  private final List<String> lowerCaseTitles;
+  private final Map<String, Long> wordCounts;
+  private final Map<String, Long> companyCounts;
+  private final Map<List<Object>, CachedResponse> defaultResponses = new HashMap<>();
+  private final Map<List<Object>, CachedResponse> responses = new ConcurrentHashMap<>();
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  public JobServer(List<Job> jobs, int port) throws IOException {
+    this(jobs, port, Runtime.getRuntime().availableProcessors() * 2);
+  }
+
+  public JobServer(List<Job> jobs, int port, int threads) throws IOException {
+    this.jobs = Collections.unmodifiableList(jobs);
+    this.lowerCaseTitles = this.jobs.stream()
+            .map(job -> job.getTitle() == null ? null : job.getTitle().toLowerCase(Locale.ROOT))
+            .collect(toList());
+    this.wordCounts = sortByCountDescending(App.getSnippetWordCountsStream(this.jobs));
+    this.companyCounts = sortByCountDescending(this.jobs.stream()
+            .collect(groupingBy(Job::getCompany, counting())));
+    this.executor = Executors.newFixedThreadPool(threads);
+    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.setExecutor(executor);
+    register("/jobs", JobServer::jobParams, this::searchJobs);
+    register("/words", params -> limitParams(params, DEFAULT_MENU_LIMIT), params -> top(wordCounts, params));
+    register("/companies", params -> limitParams(params, DEFAULT_MENU_LIMIT), params -> top(companyCounts, params));
+  }
+
+  public void start() {
+    server.start();
+    System.out.printf("Serving %d jobs on port %d %n", jobs.size(), getPort());
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  int cachedResponseCount() {
+    return defaultResponses.size() + responses.size();
+  }
+
+  /**
+   * Binds a query to a path. The normalizer keeps only the parameters the query reads, in a canonical form, so that
+   * equivalent requests share one cache entry. The default response is serialized up front.
+   */
+  private void register(String path,
+                        Function<Map<String, String>, Map<String, String>> normalizer,
+                        Function<Map<String, String>, Object> query) {
+    Map<String, String> defaults = normalizer.apply(Collections.emptyMap());
+    defaultResponses.put(cacheKey(path, defaults), serialize(query, defaults));
+    server.createContext(path, handler(path, normalizer, query));
+  }
+
+  private HttpHandler handler(String path,
+                              Function<Map<String, String>, Map<String, String>> normalizer,
+                              Function<Map<String, String>, Object> query) {
+    return exchange -> {
+      try {
+        if (!path.equals(exchange.getRequestURI().getPath())) {
+          sendText(exchange, 404, "Not found");
+          return;
+        }
+        String method = exchange.getRequestMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+          exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+          sendText(exchange, 405, "Method not allowed");
+          return;
+        }
+        Map<String, String> params = normalizer.apply(parseQuery(exchange.getRequestURI().getRawQuery()));
+        send(exchange, lookup(cacheKey(path, params), params, query));
+      } catch (IllegalArgumentException e) {
+        sendError(exchange, 400, e.getMessage());
+      } catch (RuntimeException | IOException e) {
+        e.printStackTrace();
+        sendError(exchange, 500, "Internal server error");
+      } finally {
+        exchange.close();
+      }
+    };
+  }
+
+  /**
+   * Keys are compared by value, never by their string form, so parameter values containing separators such as
+   * ", " or "=" cannot collide with a different query.
+   */
+  private static List<Object> cacheKey(String path, Map<String, String> params) {
+    return Arrays.asList(path, params);
+  }
+
+  private CachedResponse lookup(List<Object> key, Map<String, String> params,
+                                Function<Map<String, String>, Object> query) {
+    CachedResponse response = defaultResponses.get(key);
+    if (response != null) {
+      return response;
+    }
+    response = responses.computeIfAbsent(key, k -> serialize(query, params));
+    if (responses.size() > MAX_CACHED_RESPONSES) {
+      Iterator<List<Object>> keys = responses.keySet().iterator();
+      while (responses.size() > MAX_CACHED_RESPONSES && keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    }
+    return response;
+  }
+
+  private static CachedResponse serialize(Function<Map<String, String>, Object> query, Map<String, String> params) {
+    try {
+      return new CachedResponse(JSON_FACTORY.toByteArray(query.apply(params)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Map<String, String> jobParams(Map<String, String> raw) {
+    Map<String, String> params = limitParams(raw, DEFAULT_JOB_LIMIT);
+    for (String name : new String[]{"q", "city", "state", "company"}) {
+      String value = raw.get(name);
+      if (value != null && !value.trim().isEmpty()) {
+        params.put(name, value.trim().toLowerCase(Locale.ROOT));
+      }
+    }
+    return params;
+  }
+
+  private static Map<String, String> limitParams(Map<String, String> raw, int defaultLimit) {
+    Map<String, String> params = new TreeMap<>();
+    params.put("limit", String.valueOf(parseLimit(raw.get("limit"), defaultLimit)));
+    return params;
+  }
+
+  private static int parseLimit(String limit, int defaultLimit) {
+    if (limit == null) {
+      return defaultLimit;
+    }
+    int value;
+    try {
+      value = Integer.parseInt(limit.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("limit must be a number");
+    }
+    if (value < 0 || value > MAX_LIMIT) {
+      throw new IllegalArgumentException("limit must be between 0 and " + MAX_LIMIT);
+    }
+    return value;
+  }
+
+  /**
+   * Walks job indexes rather than jobs so the title check can use the titles lowercased at startup.
+   */
+  private List<Job> searchJobs(Map<String, String> params) {
+    IntPredicate matches = i -> true;
+    String term = params.get("q");
+    if (term != null) {
+      matches = matches.and(i -> lowerCaseTitles.get(i) != null && lowerCaseTitles.get(i).contains(term));
+    }
+    matches = matches
+            .and(fieldMatches(params.get("city"), Job::getCity))
+            .and(fieldMatches(params.get("state"), Job::getState))
+            .and(fieldMatches(params.get("company"), Job::getCompany));
+    return IntStream.range(0, jobs.size())
+            .filter(matches)
+            .limit(Integer.parseInt(params.get("limit")))
+            .mapToObj(jobs::get)
+            .collect(toList());
+  }
+
+  private IntPredicate fieldMatches(String expected, Function<Job, String> field) {
+    if (expected == null) {
+      return i -> true;
+    }
+    return i -> expected.equalsIgnoreCase(field.apply(jobs.get(i)));
+  }
+
+  private static Map<String, Long> top(Map<String, Long> counts, Map<String, String> params) {
+    return counts.entrySet().stream()
+            .limit(Integer.parseInt(params.get("limit")))
+            .collect(LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()), Map::putAll);
+  }
+
+  private static Map<String, Long> sortByCountDescending(Map<String, Long> counts) {
+    return Collections.unmodifiableMap(counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()))
+            .collect(LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()), Map::putAll));
+  }
+
+  private static void send(HttpExchange exchange, CachedResponse response) throws IOException {
+    Headers headers = exchange.getResponseHeaders();
+    headers.set("Content-Type", "application/json; charset=utf-8");
+    headers.set("Vary", "Accept-Encoding");
+    byte[] body = response.plain;
+    if (acceptsGzip(exchange.getRequestHeaders())) {
+      headers.set("Content-Encoding", "gzip");
+      body = response.gzipped;
+    }
+    sendBody(exchange, 200, body);
+  }
+
+  /**
+   * Reports a failure unless the status line has already gone out, in which case closing the exchange is all that
+   * is left to do.
+   */
+  private static void sendError(HttpExchange exchange, int status, String message) {
+    if (exchange.getResponseCode() != -1) {
+      return;
+    }
+    try {
+      exchange.getResponseHeaders().remove("Content-Encoding");
+      sendText(exchange, status, message);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    sendBody(exchange, status, message.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * HEAD gets the same headers as GET, including the Content-Length of the body it would have received.
+   */
+  private static void sendBody(HttpExchange exchange, int status, byte[] body) throws IOException {
+    if ("HEAD".equals(exchange.getRequestMethod())) {
+      exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+      exchange.sendResponseHeaders(status, -1);
+      return;
+    }
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * True when an Accept-Encoding header lists gzip without refusing it with q=0.
+   */
+  static boolean acceptsGzip(Headers requestHeaders) {
+    List<String> headerValues = requestHeaders.get("Accept-Encoding");
+    if (headerValues == null) {
+      return false;
+    }
+    return headerValues.stream()
+            .flatMap(value -> Stream.of(value.split(",")))
+            .map(token -> token.split(";"))
+            .filter(parts -> parts[0].trim().equalsIgnoreCase("gzip"))
+            .anyMatch(parts -> quality(parts) > 0);
+  }
+
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String param = parts[i].trim();
+      if (param.startsWith("q=") || param.startsWith("Q=")) {
+        try {
+          return Double.parseDouble(param.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Parameters are kept sorted so that equivalent queries share one cache entry regardless of their order.
+   */
+  static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> params = new TreeMap<>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return params;
+    }
+    for (String pair : rawQuery.split("&")) {
+      int idx = pair.indexOf('=');
+      String name = decode(idx < 0 ? pair : pair.substring(0, idx));
+      String value = idx < 0 ? "" : decode(pair.substring(idx + 1));
+      if (!name.isEmpty() && !value.isEmpty()) {
+        params.put(name, value);
+      }
+    }
+    return params;
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class CachedResponse {
+    private final byte[] plain;
+    private final byte[] gzipped;
+
+    CachedResponse(byte[] plain) {
+      this.plain = plain;
+      this.gzipped = gzip(plain);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 2 + 32);
+      try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+        out.write(bytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return buffer.toByteArray();
+    }
+  }
+}
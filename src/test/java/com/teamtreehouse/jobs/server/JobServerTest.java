@@ -0,0 +1,242 @@
+package com.teamtreehouse.jobs.server;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+
+import com.teamtreehouse.jobs.model.Job;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JobServerTest {
+  private static final JsonFactory JSON_FACTORY = new JacksonFactory();
+
+  private JobServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    List<Job> jobs = new ArrayList<>();
+    jobs.add(job("{\"jobtitle\":\"Junior Java Developer\",\"company\":\"Acme\",\"city\":\"Portland\"," +
+            "\"state\":\"OR\",\"snippet\":\"Java and Spring\"}"));
+    jobs.add(job("{\"jobtitle\":\"Senior Java Engineer\",\"company\":\"Acme\",\"city\":\"Austin\"," +
+            "\"state\":\"TX\",\"snippet\":\"Java, Java everywhere\"}"));
+    jobs.add(job("{\"jobtitle\":\"Python Developer\",\"company\":\"Initech\",\"city\":\"Portland\"," +
+            "\"state\":\"ME\",\"snippet\":\"Python\"}"));
+    jobs.add(job("{\"company\":\"Globex\",\"city\":\"Springfield\",\"state\":\"IL\",\"snippet\":\"Untitled\"}"));
+    server = new JobServer(jobs, 0, 2);
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  public void searchMatchesTitleIgnoringCase() throws Exception {
+    Response response = get("/jobs?q=JAVA", null);
+    assertEquals(200, response.status);
+    assertEquals(2, countJobs(response.body));
+  }
+
+  @Test
+  public void searchSkipsJobsWithoutTitle() throws Exception {
+    Response response = get("/jobs?q=untitled", null);
+    assertEquals(200, response.status);
+    assertEquals(0, countJobs(response.body));
+  }
+
+  @Test
+  public void jobsWithoutTitleAreReturnedWithoutSearchTerm() throws Exception {
+    Response response = get("/jobs?company=globex", null);
+    assertEquals(1, countJobs(response.body));
+    assertTrue(response.body.contains("Springfield"));
+  }
+
+  @Test
+  public void filtersMatchLocationAndCompanyIgnoringCase() throws Exception {
+    assertEquals(2, countJobs(get("/jobs?city=portland", null).body));
+    assertEquals(1, countJobs(get("/jobs?city=Portland&state=or", null).body));
+    assertEquals(2, countJobs(get("/jobs?company=ACME", null).body));
+  }
+
+  @Test
+  public void limitCapsResults() throws Exception {
+    assertEquals(4, countJobs(get("/jobs", null).body));
+    assertEquals(1, countJobs(get("/jobs?limit=1", null).body));
+    assertEquals(0, countJobs(get("/jobs?limit=0", null).body));
+    assertEquals(200, get("/jobs?limit=1000", null).status);
+  }
+
+  @Test
+  public void limitOutOfBoundsIsBadRequest() throws Exception {
+    assertEquals(400, get("/jobs?limit=1001", null).status);
+    assertEquals(400, get("/words?limit=-1", null).status);
+  }
+
+  @Test
+  public void nonNumericLimitIsBadRequestWithMessage() throws Exception {
+    Response response = get("/jobs?limit=abc", null);
+    assertEquals(400, response.status);
+    assertEquals("limit must be a number", response.body);
+  }
+
+  @Test
+  public void postIsNotAllowed() throws Exception {
+    HttpURLConnection connection = open("/jobs");
+    connection.setRequestMethod("POST");
+    assertEquals(405, connection.getResponseCode());
+    assertEquals("GET, HEAD", connection.getHeaderField("Allow"));
+  }
+
+  @Test
+  public void headReturnsHeadersWithoutBody() throws Exception {
+    Response plain = get("/jobs?q=java", null);
+    HttpURLConnection connection = open("/jobs?q=java");
+    connection.setRequestMethod("HEAD");
+    assertEquals(200, connection.getResponseCode());
+    assertEquals(String.valueOf(plain.body.getBytes(StandardCharsets.UTF_8).length),
+            connection.getHeaderField("Content-Length"));
+    assertEquals("", read(connection.getInputStream()));
+  }
+
+  @Test
+  public void pathsBelowAnEndpointAreNotFound() throws Exception {
+    assertEquals(404, get("/jobsXYZ?limit=1", null).status);
+    assertEquals(404, get("/jobs/foo?limit=1", null).status);
+  }
+
+  @Test
+  public void companiesAreSortedByJobCount() throws Exception {
+    Response response = get("/companies?limit=2", null);
+    assertEquals("{\"Acme\":2,\"Globex\":1}", response.body);
+  }
+
+  @Test
+  public void wordsAreSortedByCount() throws Exception {
+    Response response = get("/words?limit=1", null);
+    assertEquals("{\"java\":3}", response.body);
+  }
+
+  @Test
+  public void gzipIsSentOnlyWhenAccepted() throws Exception {
+    Response plain = get("/jobs?q=java", null);
+    assertNull(plain.encoding);
+
+    Response gzipped = get("/jobs?q=java", "deflate, gzip");
+    assertEquals("gzip", gzipped.encoding);
+    assertEquals(plain.body, gzipped.body);
+
+    assertNull(get("/jobs?q=java", "gzip;q=0").encoding);
+    assertNull(get("/jobs?q=java", "deflate").encoding);
+  }
+
+  @Test
+  public void acceptsGzipReadsQualityValues() {
+    assertTrue(acceptsGzip("gzip"));
+    assertTrue(acceptsGzip("br, GZIP;q=0.5"));
+    assertTrue(!acceptsGzip("gzip;q=0"));
+    assertTrue(!acceptsGzip("gzip; q=0.0, deflate"));
+    assertTrue(!acceptsGzip("x-gzip-ish"));
+  }
+
+  @Test
+  public void parseQueryDecodesAndSkipsEmptyValues() {
+    assertEquals("{city=San Jose, q=java}", JobServer.parseQuery("q=java&city=San+Jose&state=&limit").toString());
+    assertTrue(JobServer.parseQuery(null).isEmpty());
+  }
+
+  @Test
+  public void defaultResponsesAreCachedUpFront() throws Exception {
+    assertEquals(3, server.cachedResponseCount());
+    get("/jobs?limit=25", null);
+    get("/words?limit=20", null);
+    get("/companies", null);
+    assertEquals(3, server.cachedResponseCount());
+  }
+
+  @Test
+  public void equivalentQueriesShareOneCacheEntry() throws Exception {
+    get("/jobs?q=java&limit=1", null);
+    get("/jobs?limit=1&q=java", null);
+    get("/jobs?limit=01&q=%20Java%20&x=1", null);
+    get("/jobs?q=java&limit=1&x=2", null);
+    assertEquals(4, server.cachedResponseCount());
+  }
+
+  @Test
+  public void separatorsInValuesCannotPoisonAnotherQuery() throws Exception {
+    Response crafted = get("/jobs?city=portland%2C%20company%3Dacme", null);
+    assertEquals(0, countJobs(crafted.body));
+    Response real = get("/jobs?city=portland&company=acme", null);
+    assertEquals(1, countJobs(real.body));
+    assertTrue(real.body.contains("Junior Java Developer"));
+  }
+
+  private static Job job(String json) throws IOException {
+    return JSON_FACTORY.fromString(json, Job.class);
+  }
+
+  private static int countJobs(String body) {
+    return body.split("\"company\"", -1).length - 1;
+  }
+
+  private static boolean acceptsGzip(String header) {
+    com.sun.net.httpserver.Headers headers = new com.sun.net.httpserver.Headers();
+    headers.add("Accept-Encoding", header);
+    return JobServer.acceptsGzip(headers);
+  }
+
+  private HttpURLConnection open(String path) throws IOException {
+    return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+  }
+
+  private Response get(String path, String acceptEncoding) throws IOException {
+    HttpURLConnection connection = open(path);
+    if (acceptEncoding != null) {
+      connection.setRequestProperty("Accept-Encoding", acceptEncoding);
+    }
+    Response response = new Response();
+    response.status = connection.getResponseCode();
+    response.encoding = connection.getHeaderField("Content-Encoding");
+    InputStream in = response.status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    if ("gzip".equals(response.encoding)) {
+      in = new GZIPInputStream(in);
+    }
+    response.body = read(in);
+    return response;
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream stream = in) {
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static class Response {
+    private int status;
+    private String encoding;
+    private String body;
+  }
+}